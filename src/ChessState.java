@@ -1,8 +1,11 @@
 import java.awt.Toolkit;
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Random;
 import java.util.Scanner;
 /// Represents the state of a chess game
 class ChessState {
@@ -17,95 +20,153 @@ class ChessState {
 	public static final int PieceMask = 7;
 	public static final int WhiteMask = 8;
 	public static final int AllMask = 15;
-	public static Random r = new Random();
 	int[] m_rows;
 
 	// TODO: This algorithm is not functioning correctly at the given moment. I'm able to beat the AI with depth level of 5.
-	public static int alphaBetaPruning(ChessState state, int depth, int alpha, int beta, boolean isMax) {
+	/// ply is the distance from the root of the search. The best line found from this
+	/// state is left in row ply of the search's PV table.
+	public static int alphaBetaPruning(Search search, ChessState state, int depth, int ply, int alpha, int beta, boolean isMax) {
 		if(state == null) {
 			throw new IllegalArgumentException("The state is null, unable to run algorithm on invalid state");
 		}
+		search.nodes++;
+		search.pvLength[ply] = ply;
 		if(depth == 0) {
 			// Return the heuristic of the state.
-			// Random r = new Random();
-			r.setSeed(System.currentTimeMillis());
-			return state.heuristic(r);
-		}
-		if(isMax) { 
-			int best = Integer.MIN_VALUE;
-			ChessMoveIterator it = state.iterator(true); // if true, checks for white piece.
-			ChessState.ChessMove m;
-			String s = "White" + depth;
-			while(it.hasNext()) {
-				ChessState childState = new ChessState(state);
-				m = it.next();
-				childState.move(m.xSource, m.ySource, m.xDest, m.yDest); // Makes the move.
-				// int h = childState.heuristic(r);
-				best = Math.max(best, alphaBetaPruning(childState, depth-1, alpha, beta, !isMax)); // Continue search the game tree.
+			return state.heuristic(search.seed);
+		}
+		// Try the move from the previous iteration's best line first, if we are still on it.
+		int pvMove = search.nextPvMove(state, ply, isMax);
+		boolean tryPv = (pvMove != 0);
+		ChessMoveIterator it = state.iterator(isMax); // if true, checks for white piece.
+		int best = isMax ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+		while(tryPv || it.hasNext()) {
+			int m;
+			if(tryPv) {
+				m = pvMove;
+				tryPv = false;
+			}
+			else {
+				m = it.nextMove();
+				if(m == pvMove)
+					continue; // already searched first
+			}
+			ChessState childState = new ChessState(state);
+			childState.move(moveXSrc(m), moveYSrc(m), moveXDest(m), moveYDest(m)); // Makes the move.
+			int val = alphaBetaPruning(search, childState, depth-1, ply+1, alpha, beta, !isMax); // Continue searching the game tree.
+			search.followPv = false; // the remaining children are off the previous best line
+			if(isMax) {
+				if(val > best) {
+					best = val;
+					search.updatePv(ply, m);
+				}
 				alpha = Math.max(alpha, best);
-				// childState = new ChessState(state);
-				if(alpha >= beta)
-					break;
 			}
-			return best;
-		}
-		else {
-			int best = Integer.MAX_VALUE;
-			ChessMoveIterator it = state.iterator(false); // Checks for black piece.
-			ChessState.ChessMove m;
-			String s = "Black" + depth;
-			while(it.hasNext()) {
-				m = it.next();
-				ChessState childState = new ChessState(state);
-				childState.move(m.xSource, m.ySource, m.xDest, m.yDest); // Makes the move.
-				// int h = childState.heuristic(r);
-				best = Math.min(best, alphaBetaPruning(childState, depth-1, alpha, beta, !isMax)); // Continue searching the game tree.
+			else {
+				if(val < best) {
+					best = val;
+					search.updatePv(ply, m);
+				}
 				beta = Math.min(beta, best);
-				//childState = new ChessState(state);
-				if(alpha >= beta)
-					break;
 			}
-			return best;
+			if(alpha >= beta)
+				break;
 		}
+		return best;
 	}
-	public static ChessState.ChessMove findBestMove(ChessState state, int depth, boolean isWhite) {
-		if(isWhite) {
-			int maxMove = Integer.MIN_VALUE;
-			ChessMoveIterator it = state.iterator(true);
-			ChessMove bestMove = new ChessMove();
-			ChessMove testMove = new ChessMove();
-			String s = "White" + depth;
-			//ChessState temp = new ChessState(state);
-			while(it.hasNext()) {
-				ChessState temp = new ChessState(state);
-				testMove = it.next();
-				temp.move(testMove.xSource, testMove.ySource, testMove.xDest, testMove.yDest);
-				int testVal = alphaBetaPruning(temp, depth-1, Integer.MIN_VALUE, Integer.MAX_VALUE, !isWhite);
-				if(testVal > maxMove) {
-					bestMove = testMove;
-					maxMove = testVal;
-				}
-			}
-			return bestMove;
+
+	/// Searches the root moves with iterative deepening and returns the best count of
+	/// them, best first, each with an exact score and principal variation. Moves that
+	/// cannot make the top count are only searched far enough to prove it. The root
+	/// moves and their child states are generated once and reordered by the previous
+	/// depth, and each move's line from the previous depth is searched first, so the
+	/// whole analysis shares one tree. If listener is not null, it is given the
+	/// current top moves after each completed depth.
+	public static ArrayList<RootMove> findBestMoves(ChessState state, int depth, boolean isWhite, int count, Search search, SearchListener listener) {
+		if(depth < 1 || count < 1)
+			throw new IllegalArgumentException("depth and count must be positive");
+		if(depth > Search.MAX_PLY)
+			throw new IllegalArgumentException("depth must not be more than " + Search.MAX_PLY);
+		search.reset(search.seed);
+		ArrayList<RootNode> rootMoves = new ArrayList<RootNode>();
+		ChessMoveIterator it = state.iterator(isWhite);
+		while(it.hasNext()) {
+			RootNode rm = new RootNode();
+			rm.move = it.next();
+			rm.state = new ChessState(state);
+			rm.state.move(rm.move.xSource, rm.move.ySource, rm.move.xDest, rm.move.yDest);
+			rm.pv = new int[Search.MAX_PLY + 1];
+			rm.pvLength = 0;
+			rootMoves.add(rm);
 		}
-		else {
-			int minMove = Integer.MAX_VALUE;
-			ChessMoveIterator it = state.iterator(false);
-			ChessMove bestMove = new ChessMove();
-			ChessMove testMove = new ChessMove();
-			String s = "Black" + depth;
-			while(it.hasNext()) {
-				ChessState temp = new ChessState(state);
-				testMove = it.next();
-				temp.move(testMove.xSource, testMove.ySource, testMove.xDest, testMove.yDest);
-				int testVal = alphaBetaPruning(temp, depth-1, Integer.MIN_VALUE, Integer.MAX_VALUE, !isWhite);
-				if(testVal < minMove) {
-					bestMove = testMove;
-					minMove = testVal;
+		count = Math.min(count, rootMoves.size());
+		ArrayList<RootMove> best = new ArrayList<RootMove>();
+		for(int d = 1; d <= depth; d++) {
+			// Scores of the exact moves found so far at this depth, best first.
+			ArrayList<Integer> top = new ArrayList<Integer>();
+			for(RootNode rm : rootMoves) {
+				// Once count moves are known, a move only matters if it beats the worst of them.
+				// A bound at the window's own limit does not narrow it, so every score is exact.
+				int noBound = isWhite ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+				int bound = top.size() >= count ? top.get(count - 1) : noBound;
+				boolean bounded = (bound != noBound);
+				search.setPreviousPv(rm.pv, rm.pvLength);
+				int val;
+				if(isWhite)
+					val = alphaBetaPruning(search, rm.state, d - 1, 1, bound, Integer.MAX_VALUE, false);
+				else
+					val = alphaBetaPruning(search, rm.state, d - 1, 1, Integer.MIN_VALUE, bound, true);
+				rm.score = val;
+				rm.depth = d;
+				rm.exact = !bounded || (isWhite ? val > bound : val < bound);
+				if(rm.exact) {
+					search.updatePv(0, rm.move.pack());
+					rm.pvLength = search.pvLength[0];
+					System.arraycopy(search.pvTable[0], 0, rm.pv, 0, rm.pvLength);
+					int i = 0;
+					while(i < top.size() && (isWhite ? top.get(i) >= val : top.get(i) <= val))
+						i++;
+					top.add(i, val);
 				}
+				else
+					rm.pvLength = 0;
 			}
-			return bestMove;
+			// Stable sort keeps the previous order among equal scores.
+			Collections.sort(rootMoves, (a, b) -> {
+				if(a.score != b.score)
+					return isWhite ? Integer.compare(b.score, a.score) : Integer.compare(a.score, b.score);
+				return Boolean.compare(b.exact, a.exact);
+			});
+			best = new ArrayList<RootMove>();
+			for(int i = 0; i < count; i++)
+				best.add(new RootMove(rootMoves.get(i)));
+			if(listener != null)
+				listener.depthCompleted(d, best, search.nodes);
+		}
+		return best;
+	}
+
+	/// Finds the best move with a freshly seeded search, so repeated calls may differ.
+	public static ChessState.ChessMove findBestMove(ChessState state, int depth, boolean isWhite) {
+		return findBestMove(state, depth, isWhite, new Search(System.nanoTime()));
+	}
+
+	/// Finds the best move using the given search. The same position, depth and seed
+	/// always give the same move, score and node count, also when the search object
+	/// is reused. This is findBestMoves for a single move, so each depth searches the
+	/// line found by the one before it first. The principal variation is left in the search.
+	public static ChessState.ChessMove findBestMove(ChessState state, int depth, boolean isWhite, Search search) {
+		ArrayList<RootMove> best = findBestMoves(state, depth, isWhite, 1, search, null);
+		if(best.isEmpty()) {
+			// No moves, so there is no line, and the score is that of losing.
+			search.score = isWhite ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+			return new ChessMove();
 		}
+		RootMove rm = best.get(0);
+		search.score = rm.score;
+		System.arraycopy(rm.pv, 0, search.pvTable[0], 0, rm.pvLength);
+		search.pvLength[0] = rm.pvLength;
+		return rm.move;
 	}
 
 	ChessState() {
@@ -163,7 +224,9 @@ class ChessState {
 	}
 
 	/// Positive means white is favored. Negative means black is favored.
-	int heuristic(Random rand)
+	/// Adds noise of -1, 0 or 1 that depends only on the board and the seed, so
+	/// the order in which positions are searched cannot change their scores.
+	int heuristic(long seed)
 	{
 		int score = 0;
 		for(int y = 0; y < 8; y++)
@@ -189,7 +252,18 @@ class ChessState {
 					score -= value;
 			}
 		}
-		return score + rand.nextInt(3) - 1;
+		return score + noise(seed);
+	}
+
+	/// Returns -1, 0 or 1, mixed from the rows of the board and the seed
+	int noise(long seed) {
+		long h = seed;
+		for(int i = 0; i < 8; i++) {
+			h ^= m_rows[i] & 0xFFFFFFFFL;
+			h *= 0x9E3779B97F4A7C15L;
+			h ^= h >>> 29;
+		}
+		return (int)Long.remainderUnsigned(h, 3) - 1;
 	}
 
 	/// Returns an iterator that iterates over all possible moves for the specified color
@@ -247,6 +321,67 @@ class ChessState {
 		stream.println("  A  B  C  D  E  F  G  H");
 	}
 
+	/// Sets up the board from a string of ranks 8 down to 1 separated by '/'. Letters
+	/// "prnbqk" are pieces (uppercase for white) and digits count empty squares.
+	void setBoard(String placement) {
+		String[] ranks = placement.split("/");
+		if(ranks.length != 8)
+			throw new IllegalArgumentException("Expected 8 ranks: " + placement);
+		for(int j = 0; j < 8; j++) {
+			String rank = ranks[7 - j];
+			int i = 0;
+			for(int k = 0; k < rank.length(); k++) {
+				char c = rank.charAt(k);
+				if(c >= '1' && c <= '8') {
+					for(int n = c - '0'; n > 0; n--)
+						setPiece(i++, j, None, false);
+					continue;
+				}
+				int p;
+				switch(Character.toLowerCase(c)) {
+					case 'p': p = Pawn; break;
+					case 'r': p = Rook; break;
+					case 'n': p = Knight; break;
+					case 'b': p = Bishop; break;
+					case 'q': p = Queen; break;
+					case 'k': p = King; break;
+					default: throw new IllegalArgumentException("Unknown piece '" + c + "' in " + placement);
+				}
+				if(i >= 8)
+					throw new IllegalArgumentException("Rank too long in " + placement);
+				setPiece(i++, j, p, Character.isUpperCase(c));
+			}
+			if(i != 8)
+				throw new IllegalArgumentException("Rank " + (j + 1) + " does not have 8 squares in " + placement);
+		}
+	}
+
+	/// Returns the board in the format accepted by setBoard
+	String boardString() {
+		StringBuilder sb = new StringBuilder();
+		for(int j = 7; j >= 0; j--) {
+			int empty = 0;
+			for(int i = 0; i < 8; i++) {
+				int p = getPiece(i, j);
+				if(p == None) {
+					empty++;
+					continue;
+				}
+				if(empty > 0) {
+					sb.append(empty);
+					empty = 0;
+				}
+				char c = "?prnbqk".charAt(p);
+				sb.append(isWhite(i, j) ? Character.toUpperCase(c) : c);
+			}
+			if(empty > 0)
+				sb.append(empty);
+			if(j > 0)
+				sb.append('/');
+		}
+		return sb.toString();
+	}
+
 	/// Pass in the coordinates of a square with a piece on it
 	/// and it will return the places that piece can move to.
 	ArrayList<Integer> moves(int col, int row) {
@@ -439,6 +574,184 @@ class ChessState {
 		int ySource;
 		int xDest;
 		int yDest;
+
+		/// Returns the move packed into an int, see packMove
+		int pack() {
+			return packMove(xSource, ySource, xDest, yDest);
+		}
+
+		/// Returns the move in the same notation the human player types, e.g. "b1c3"
+		public String toString() {
+			return moveString(pack());
+		}
+	}
+
+	/// Packs a move into an int, 3 bits each for xSource, ySource, xDest and yDest
+	/// from the lowest bits up. No real move packs to 0.
+	static int packMove(int xSrc, int ySrc, int xDest, int yDest) {
+		return xSrc | (ySrc << 3) | (xDest << 6) | (yDest << 9);
+	}
+
+	static int moveXSrc(int move) {
+		return move & 7;
+	}
+
+	static int moveYSrc(int move) {
+		return (move >> 3) & 7;
+	}
+
+	static int moveXDest(int move) {
+		return (move >> 6) & 7;
+	}
+
+	static int moveYDest(int move) {
+		return (move >> 9) & 7;
+	}
+
+	static ChessMove unpackMove(int move) {
+		ChessMove m = new ChessMove();
+		m.xSource = moveXSrc(move);
+		m.ySource = moveYSrc(move);
+		m.xDest = moveXDest(move);
+		m.yDest = moveYDest(move);
+		return m;
+	}
+
+	/// Returns a packed move in the same notation the human player types, e.g. "b1c3"
+	static String moveString(int move) {
+		return "" + (char)('a' + moveXSrc(move)) + (moveYSrc(move) + 1) + (char)('a' + moveXDest(move)) + (moveYDest(move) + 1);
+	}
+
+	/// A move from the root of a search, with its score and principal variation
+	static class RootMove {
+		ChessMove move;
+		int score;
+		int depth; // the depth the score comes from
+		boolean exact; // false if score is only a bound because the move did not make the top moves
+		int[] pv; // packed moves, starting with move
+		int pvLength;
+
+		RootMove() {
+		}
+
+		/// Copies the result, so it does not change as the search goes deeper
+		RootMove(RootMove that) {
+			move = unpackMove(that.move.pack());
+			score = that.score;
+			depth = that.depth;
+			exact = that.exact;
+			pv = Arrays.copyOf(that.pv, that.pvLength);
+			pvLength = that.pvLength;
+		}
+
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append(score);
+			for(int i = 0; i < pvLength; i++)
+				sb.append(" ").append(moveString(pv[i]));
+			return sb.toString();
+		}
+	}
+
+	/// A root move as findBestMoves keeps it while searching. Only copies without
+	/// the position are handed out, so callers cannot change what is searched.
+	private static class RootNode extends RootMove {
+		ChessState state; // the position after move
+	}
+
+	/// Receives the partial results of findBestMoves
+	interface SearchListener {
+		/// Called after each completed depth with the current top moves, best first
+		void depthCompleted(int depth, ArrayList<RootMove> best, long nodes);
+	}
+
+	/// Holds the state of a single search. The seed picks the noise added to each
+	/// leaf score, so a fixed seed makes the result reproducible, and each search
+	/// has its own tables, so concurrent searches do not interfere.
+	static class Search {
+		static final int MAX_PLY = 64;
+		long seed;
+		long nodes;
+		int score;
+
+		/// Triangular PV table of packed moves. Row ply holds the best line from that
+		/// ply in columns ply to pvLength[ply] - 1, so row 0 is the line from the root.
+		int[][] pvTable;
+		int[] pvLength;
+
+		/// The line from the previous iteration, searched first while followPv is true
+		int[] prevPv;
+		int prevPvLength;
+		boolean followPv;
+
+		Search(long seed) {
+			pvTable = new int[MAX_PLY + 1][MAX_PLY + 1];
+			pvLength = new int[MAX_PLY + 1];
+			prevPv = new int[MAX_PLY + 1];
+			reset(seed);
+		}
+
+		/// Clears the results of the last search and sets the seed for the next one.
+		/// The tables are kept, so one object can serve any number of searches.
+		void reset(long seed) {
+			this.seed = seed;
+			nodes = 0;
+			score = 0;
+			pvLength[0] = 0;
+			prevPvLength = 0;
+			followPv = false;
+		}
+
+		/// Makes move followed by the best line from ply + 1 the best line from ply
+		void updatePv(int ply, int move) {
+			pvTable[ply][ply] = move;
+			for(int i = ply + 1; i < pvLength[ply + 1]; i++)
+				pvTable[ply][i] = pvTable[ply + 1][i];
+			pvLength[ply] = pvLength[ply + 1];
+		}
+
+		/// Searches the given line first, starting with the move at ply 1
+		void setPreviousPv(int[] line, int length) {
+			System.arraycopy(line, 0, prevPv, 0, length);
+			prevPvLength = length;
+			followPv = (length > 1);
+		}
+
+		/// Returns the move to try first at ply, or 0 if the search has left the previous line
+		int nextPvMove(ChessState state, int ply, boolean white) {
+			if(!followPv || ply >= prevPvLength) {
+				followPv = false;
+				return 0;
+			}
+			int m = prevPv[ply];
+			int x = moveXSrc(m), y = moveYSrc(m);
+			if(state.getPiece(x, y) == None || state.isWhite(x, y) != white || !state.isValidMove(x, y, moveXDest(m), moveYDest(m))) {
+				followPv = false;
+				return 0;
+			}
+			return m;
+		}
+
+		/// Returns the number of moves in the principal variation of the last search
+		int bestLineLength() {
+			return pvLength[0];
+		}
+
+		/// Returns move i of the principal variation of the last search, packed
+		int bestLineMove(int i) {
+			return pvTable[0][i];
+		}
+
+		/// Returns the principal variation of the last search in human notation
+		String pvString() {
+			StringBuilder sb = new StringBuilder();
+			for(int i = 0; i < pvLength[0]; i++) {
+				if(i > 0)
+					sb.append(" ");
+				sb.append(moveString(pvTable[0][i]));
+			}
+			return sb.toString();
+		}
 	}
 
 	/// Iterates through all the possible moves for the specified color.
@@ -485,11 +798,12 @@ class ChessState {
 
 		/// Returns the next move
 		ChessState.ChessMove next() {
-			ChessState.ChessMove m = new ChessState.ChessMove();
-			m.xSource = x;
-			m.ySource = y;
-			m.xDest = moves.get(moves.size() - 2);
-			m.yDest = moves.get(moves.size() - 1);
+			return unpackMove(nextMove());
+		}
+
+		/// Returns the next move packed into an int, see packMove
+		int nextMove() {
+			int m = packMove(x, y, moves.get(moves.size() - 2), moves.get(moves.size() - 1));
 			advance();
 			return m;
 		}
@@ -530,7 +844,85 @@ class ChessState {
 		return moveList.size();
 	}
 
-	public static void main(String[] args) {
+	/// Checks every position in the corpus file against its expected results. Lines
+	/// starting with "multipv" check findBestMoves and hold: multipv board side depth
+	/// count seed nodes, then one score:line entry per expected root move, best first,
+	/// with the moves of the line separated by commas. Other non-comment lines check
+	/// findBestMove and hold: board side depth seed move score nodes line.
+	/// Returns the number of positions that did not match.
+	public static int verifyCorpus(String filename) throws FileNotFoundException {
+		Scanner in = new Scanner(new File(filename));
+		int failures = 0;
+		int count = 0;
+		while(in.hasNextLine()) {
+			String line = in.nextLine().trim();
+			if(line.isEmpty() || line.startsWith("#"))
+				continue;
+			String[] f = line.split("\\s+");
+			boolean multiPv = f[0].equals("multipv");
+			if(multiPv ? f.length < 8 : f.length != 8) {
+				in.close();
+				throw new IllegalArgumentException("Malformed corpus line: " + line);
+			}
+			int o = multiPv ? 1 : 0;
+			ChessState state = new ChessState();
+			state.setBoard(f[o]);
+			boolean white = f[o + 1].equals("w");
+			int depth = Integer.parseInt(f[o + 2]);
+			String name = state.boardString() + " " + f[o + 1] + " depth " + depth;
+			String actual;
+			String expected;
+			if(multiPv) {
+				int moves = Integer.parseInt(f[4]);
+				Search search = new Search(Long.parseLong(f[5]));
+				ArrayList<RootMove> best = findBestMoves(state, depth, white, moves, search, null);
+				StringBuilder sb = new StringBuilder();
+				sb.append(search.nodes);
+				for(RootMove rm : best) {
+					// A bound instead of an exact score is marked, so it never matches.
+					sb.append(" ").append(rm.score).append(rm.exact ? ":" : "?:");
+					for(int i = 0; i < rm.pvLength; i++)
+						sb.append(i > 0 ? "," : "").append(moveString(rm.pv[i]));
+				}
+				actual = sb.toString();
+				expected = String.join(" ", Arrays.copyOfRange(f, 6, f.length));
+				name = "multipv " + name + " count " + moves;
+			}
+			else {
+				Search search = new Search(Long.parseLong(f[3]));
+				ChessMove m = findBestMove(state, depth, white, search);
+				actual = m + " " + search.score + " " + search.nodes + " " + search.pvString().replace(' ', ',');
+				expected = f[4] + " " + f[5] + " " + f[6] + " " + f[7];
+			}
+			count++;
+			if(actual.equals(expected))
+				System.out.println("ok   " + name + ": " + actual);
+			else {
+				System.out.println("FAIL " + name + ": expected " + expected + ", got " + actual);
+				failures++;
+			}
+		}
+		in.close();
+		System.out.println((count - failures) + "/" + count + " positions passed");
+		return failures;
+	}
+
+	public static void main(String[] args) throws FileNotFoundException {
+		if(args.length == 2 && args[0].equals("verify")) {
+			System.exit(verifyCorpus(args[1]) == 0 ? 0 : 1);
+		}
+		if(args.length >= 5 && args[0].equals("analyze")) {
+			// analyze board side depth count [seed]: prints the top moves after each depth.
+			ChessState state = new ChessState();
+			state.setBoard(args[1]);
+			Search search = new Search(args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime());
+			findBestMoves(state, Integer.parseInt(args[3]), args[2].equals("w"), Integer.parseInt(args[4]), search, (depth, best, nodes) -> {
+				System.out.println("depth " + depth + " nodes " + nodes);
+				for(int i = 0; i < best.size(); i++)
+					System.out.println("  " + (i + 1) + ". " + best.get(i));
+			});
+			return;
+		}
         // Able to accept arguments.
         int depthFirstAI = Integer.parseInt(args[0]);
         int depthSecondAI= Integer.parseInt(args[1]);
@@ -549,6 +941,12 @@ class ChessState {
         else {
             System.out.println("AI at depth: " + depthSecondAI);
 		}
+		// An optional third argument fixes the seed of every search, making the game repeatable.
+		boolean seeded = args.length > 2;
+		long seed = seeded ? Long.parseLong(args[2]) : 0;
+		// One search per player, reused for every move so its tables are allocated once.
+		Search whiteSearch = new Search(seed);
+		Search blackSearch = new Search(seed);
 		ChessState s = new ChessState();
 		s.resetBoard();
 		Scanner reader = new Scanner(System.in);
@@ -562,8 +960,11 @@ class ChessState {
 					// Call ABPruning make isMax true, because calling from white standpoint.
 					// int[] moves = findBestMove(s, depthFirstAI);
 					// s.move(moves[0], moves[1], moves[2], moves[3]);
-					ChessMove moveForFirstPlayer = findBestMove(s, depthFirstAI, true); // True meaning the piece perspective is white.
+					Search search = whiteSearch;
+					search.reset(seeded ? seed : System.nanoTime());
+					ChessMove moveForFirstPlayer = findBestMove(s, depthFirstAI, true, search); // True meaning the piece perspective is white.
 					System.out.println("White turn: " + counter);
+					System.out.println("Best line: " + search.pvString() + " (score " + search.score + ")");
 					try {
 					s.move(moveForFirstPlayer.xSource, moveForFirstPlayer.ySource, moveForFirstPlayer.xDest, moveForFirstPlayer.yDest);
 					} catch(RuntimeException e) {
@@ -632,8 +1033,11 @@ class ChessState {
 				System.out.println();
 				if(depthSecondAI > 0) {
 					// int[] moves = findBestMove(s, depthSecondAI);
-					ChessMove moveForSecondPlayer = findBestMove(s, depthSecondAI, false); // False meaning the piece perspective is black
+					Search search = blackSearch;
+					search.reset(seeded ? seed : System.nanoTime());
+					ChessMove moveForSecondPlayer = findBestMove(s, depthSecondAI, false, search); // False meaning the piece perspective is black
 					System.out.println("Black turn " + (counter-1));
+					System.out.println("Best line: " + search.pvString() + " (score " + search.score + ")");
 					try {
 					s.move(moveForSecondPlayer.xSource, moveForSecondPlayer.ySource, moveForSecondPlayer.xDest, moveForSecondPlayer.yDest);
 					} catch(RuntimeException e)
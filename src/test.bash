@@ -0,0 +1,5 @@
+#!/bin/bash
+set -e -x
+echo Testing...
+javac *.java
+java ChessState verify corpus.txt